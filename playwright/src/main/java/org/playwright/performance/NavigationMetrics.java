@@ -0,0 +1,76 @@
+package org.playwright.performance;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performance metrics captured for a single navigation. Timings are in milliseconds, layout shift is unitless and CDP
+ * metrics are reported as-is by Chromium.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class NavigationMetrics {
+  String url;
+
+  long timestamp;
+
+  /**
+   * Derived from the Navigation Timing (PerformanceNavigationTiming) entry, e.g. timeToFirstByte, domContentLoaded.
+   */
+  @Singular
+  Map<String, Double> navigationTimings;
+
+  @Singular
+  List<ResourceTiming> resourceTimings;
+
+  /**
+   * Chromium CDP Performance.getMetrics. Counters such as ScriptDuration or LayoutCount are the delta since the previous
+   * capture on the same page, gauges such as JSHeapUsedSize or Nodes reflect the moment of capture.
+   */
+  @Singular
+  Map<String, Double> cdpMetrics;
+
+  Double largestContentfulPaint;
+
+  Double cumulativeLayoutShift;
+
+  /**
+   * Flatten all scalar metrics of this navigation into a single map, used to aggregate navigations into a
+   * {@link PerformanceSummary}.
+   *
+   * @return metric name to value
+   */
+  @JsonIgnore
+  public Map<String, Double> getScalarMetrics() {
+    Map<String, Double> metrics = new LinkedHashMap<>();
+    navigationTimings.forEach((name, value) -> {
+      if (value != null) {
+        metrics.put(name, value);
+      }
+    });
+    cdpMetrics.forEach((name, value) -> {
+      if (value != null) {
+        metrics.put("cdp." + name, value);
+      }
+    });
+    if (largestContentfulPaint != null) {
+      metrics.put("largestContentfulPaint", largestContentfulPaint);
+    }
+    if (cumulativeLayoutShift != null) {
+      metrics.put("cumulativeLayoutShift", cumulativeLayoutShift);
+    }
+    if (!resourceTimings.isEmpty()) {
+      metrics.put("resourceCount", (double) resourceTimings.size());
+      metrics.put("resourceTransferSize", resourceTimings.stream().mapToDouble(ResourceTiming::getTransferSize).sum());
+    }
+    return metrics;
+  }
+}
@@ -0,0 +1,380 @@
+package org.playwright.performance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.playwright.utils.WaitUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects page performance metrics per navigation: Navigation/Resource Timing entries, Chromium CDP
+ * Performance.getMetrics and LCP/CLS (via a PerformanceObserver init script). Every captured navigation is streamed to a
+ * JSON-lines file and aggregated into per-URL percentile summaries.
+ *
+ * <p>To keep overhead on the page under test minimal, the init script only keeps two numbers up to date and all
+ * entries are read with a single page.evaluate call once the page has loaded. On Chromium, CDP metrics are read right
+ * before and after that call (neither runs script in the page) so the capture itself is not counted.</p>
+ *
+ * <pre>
+ * PagePerformance performance = new PagePerformance(PagePerformanceOption.builder().build());
+ * performance.observe(page); // before navigating, so LCP/CLS are observed from the start
+ * page.navigate(url);
+ * performance.capture(page);
+ * Map&lt;String, PerformanceSummary&gt; summaries = performance.summarize();
+ * performance.close();
+ * </pre>
+ */
+@Slf4j
+public class PagePerformance implements AutoCloseable {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * JVM-wide lock for the JSON-lines output, so lines written by instances used in parallel tests never interleave.
+   */
+  private static final Object OUTPUT_LOCK = new Object();
+
+  /**
+   * Tracks LCP and CLS (largest session window) in the page and raises the resource timing buffer size above the
+   * browser default of 250 entries, see {@link PagePerformanceOption#getResourceTimingBufferSize()}. Guarded so it is
+   * only installed once per document.
+   */
+  private static final String OBSERVER_SCRIPT = """
+      (() => {
+        if (window.__playwrightManagerPerf) return;
+        const state = window.__playwrightManagerPerf = { lcp: null, cls: null, observers: [] };
+        if (performance.setResourceTimingBufferSize) performance.setResourceTimingBufferSize(%d);
+        const observe = (type, onEntries) => {
+          try {
+            const observer = new PerformanceObserver(list => onEntries(list.getEntries()));
+            observer.observe({ type, buffered: true });
+            state.observers.push({ observer, onEntries });
+            return true;
+          } catch (e) {
+            return false;
+          }
+        };
+        observe('largest-contentful-paint', entries => {
+          if (entries.length) state.lcp = entries[entries.length - 1].startTime;
+        });
+        let session = 0, first = 0, last = 0;
+        if (observe('layout-shift', entries => {
+          for (const e of entries) {
+            if (e.hadRecentInput) continue;
+            if (session && e.startTime - last < 1000 && e.startTime - first < 5000) {
+              session += e.value;
+            } else {
+              session = e.value;
+              first = e.startTime;
+            }
+            last = e.startTime;
+            state.cls = Math.max(state.cls, session);
+          }
+        })) state.cls = 0;
+      })();
+      """;
+
+  private static final String CAPTURE_SCRIPT = """
+      collectResources => {
+        const state = window.__playwrightManagerPerf;
+        if (state) state.observers.forEach(o => o.onEntries(o.observer.takeRecords()));
+        const nav = performance.getEntriesByType('navigation')[0];
+        const fcp = performance.getEntriesByName('first-contentful-paint')[0];
+        const timings = {};
+        if (nav) {
+          timings.redirect = nav.redirectEnd - nav.redirectStart;
+          timings.dnsLookup = nav.domainLookupEnd - nav.domainLookupStart;
+          timings.connect = nav.connectEnd - nav.connectStart;
+          timings.timeToFirstByte = nav.responseStart;
+          timings.transferSize = nav.transferSize || 0;
+          // phases that have not completed yet report 0, leave them out rather than skew the percentiles
+          if (nav.responseEnd > 0) timings.responseDownload = nav.responseEnd - nav.responseStart;
+          if (nav.domInteractive > 0) timings.domInteractive = nav.domInteractive;
+          if (nav.domContentLoadedEventEnd > 0) timings.domContentLoaded = nav.domContentLoadedEventEnd;
+          if (nav.loadEventEnd > 0) {
+            timings.load = nav.loadEventEnd;
+            timings.duration = nav.duration;
+          }
+        }
+        if (fcp) timings.firstContentfulPaint = fcp.startTime;
+        const resources = !collectResources ? [] : performance.getEntriesByType('resource').map(r => ({
+          name: r.name,
+          initiatorType: r.initiatorType,
+          startTime: r.startTime,
+          duration: r.duration,
+          transferSize: r.transferSize || 0,
+          encodedBodySize: r.encodedBodySize || 0
+        }));
+        return {
+          timeOrigin: performance.timeOrigin,
+          url: nav ? nav.name : location.href,
+          currentUrl: location.href,
+          timings,
+          resources,
+          lcp: state ? state.lcp : null,
+          cls: state ? state.cls : null
+        };
+      }
+      """;
+
+  private final PagePerformanceOption option;
+  private final Map<Page, CDPSession> cdpSessions = new ConcurrentHashMap<>();
+  private final Map<Page, Map<String, Double>> cdpBaselines = new ConcurrentHashMap<>();
+  private final Map<Page, Double> recordedTimeOrigins = new ConcurrentHashMap<>();
+  private final Map<String, List<NavigationMetrics>> navigationsByUrl = new LinkedHashMap<>();
+  private boolean streamingLogged;
+
+  public PagePerformance(@NonNull PagePerformanceOption option) {
+    this.option = option;
+  }
+
+  /**
+   * Start observing the page. Must be invoked before navigating for LCP/CLS to be reported, since the observer script
+   * is installed as an init script. On Chromium this also attaches a CDP session, enables the Performance domain and
+   * takes the baseline for the CDP counters of the first navigation.
+   *
+   * @param page Page object
+   */
+  public void observe(@NonNull Page page) {
+    page.addInitScript(OBSERVER_SCRIPT.formatted(option.getResourceTimingBufferSize()));
+    page.onClose(p -> recordedTimeOrigins.remove(p));
+
+    if (option.isCollectCdpMetrics() && isChromium(page) && !cdpSessions.containsKey(page)) {
+      try {
+        CDPSession session = page.context().newCDPSession(page);
+        session.send("Performance.enable");
+        cdpSessions.put(page, session);
+        resetCdpBaseline(page);
+        page.onClose(p -> {
+          cdpSessions.remove(p);
+          cdpBaselines.remove(p);
+        });
+      } catch (PlaywrightException e) {
+        log.warn("Unable to attach CDP session, CDP metrics will not be collected: {}", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Capture the metrics of the navigation currently loaded in the page, record it for the per-URL summary and append it
+   * to the JSON-lines output file. Metrics are recorded under the URL the document was loaded from.
+   *
+   * <p>A document is only recorded once: capturing again without a new document load (e.g. after a client-side
+   * pushState route change) returns the metrics without recording them, so the per-URL sample is not biased by
+   * copies of the same Navigation Timing entry.</p>
+   *
+   * @param page Page object
+   * @return metrics of the current navigation
+   */
+  @SuppressWarnings("unchecked")
+  public NavigationMetrics capture(@NonNull Page page) {
+    if (option.isWaitForLoadStates()) {
+      WaitUtils.waitForAllLoadStates(page);
+    }
+
+    // read CDP metrics first so the capture script's own work is not attributed to the page under test
+    Map<String, Double> cdpMetrics = getCdpMetricsSinceLastCapture(page);
+    Map<String, Object> result = (Map<String, Object>) page.evaluate(CAPTURE_SCRIPT, option.isCollectResourceTimings());
+    // and take the counter baseline after it, so that work is not attributed to the next navigation either
+    resetCdpBaseline(page);
+
+    // timings belong to the document load, identified by its timeOrigin, so a document already recorded is skipped
+    Double timeOrigin = toDouble(result.get("timeOrigin"));
+    boolean alreadyRecorded = timeOrigin != null && timeOrigin.equals(recordedTimeOrigins.get(page));
+    if (timeOrigin != null) {
+      recordedTimeOrigins.put(page, timeOrigin);
+    }
+
+    // after a client-side route change (pushState) timings are filed under the URL the document was loaded from
+    String documentUrl = withoutFragment((String) result.get("url"));
+    if (!alreadyRecorded && !documentUrl.equals(withoutFragment((String) result.get("currentUrl")))) {
+      log.warn("PagePerformance: page URL {} differs from the loaded document URL {}. Was the route changed client-side? "
+          + "Metrics are recorded under the document URL.", result.get("currentUrl"), result.get("url"));
+    }
+
+    NavigationMetrics.NavigationMetricsBuilder builder = NavigationMetrics.builder()
+        .url((String) result.get("url"))
+        .timestamp(System.currentTimeMillis())
+        .largestContentfulPaint(toDouble(result.get("lcp")))
+        .cumulativeLayoutShift(toDouble(result.get("cls")));
+
+    // values that are not numbers (e.g. NaN from a partially filled entry) are left out instead of recorded as null
+    Map<String, Object> timings = (Map<String, Object>) result.get("timings");
+    timings.forEach((name, value) -> {
+      Double timing = toDouble(value);
+      if (timing != null) {
+        builder.navigationTiming(name, timing);
+      }
+    });
+
+    List<Map<String, Object>> resources = (List<Map<String, Object>>) result.get("resources");
+    resources.forEach(resource -> builder.resourceTiming(ResourceTiming.builder()
+        .name((String) resource.get("name"))
+        .initiatorType((String) resource.get("initiatorType"))
+        .startTime(toPrimitiveDouble(resource.get("startTime")))
+        .duration(toPrimitiveDouble(resource.get("duration")))
+        .transferSize(toPrimitiveDouble(resource.get("transferSize")))
+        .encodedBodySize(toPrimitiveDouble(resource.get("encodedBodySize")))
+        .build()));
+
+    cdpMetrics.forEach(builder::cdpMetric);
+
+    NavigationMetrics metrics = builder.build();
+    if (alreadyRecorded) {
+      log.warn("PagePerformance: document {} was already captured, no new navigation since. Not recording it again.",
+          metrics.getUrl());
+    } else {
+      record(metrics);
+    }
+    return metrics;
+  }
+
+  /**
+   * Aggregate all captured navigations into percentile summaries. The URL fragment is ignored when grouping.
+   *
+   * @return URL to summary, in order of first capture
+   */
+  public synchronized Map<String, PerformanceSummary> summarize() {
+    Map<String, PerformanceSummary> summaries = new LinkedHashMap<>();
+    navigationsByUrl.forEach((url, navigations) -> summaries.put(url, PerformanceSummary.of(url, navigations)));
+    return summaries;
+  }
+
+  /**
+   * Detach CDP sessions.
+   */
+  @Override
+  public synchronized void close() {
+    cdpSessions.values().forEach(session -> {
+      try {
+        session.detach();
+      } catch (PlaywrightException e) {
+        log.debug("Absorbing exception while detaching CDP session: {}", e.getMessage());
+      }
+    });
+    cdpSessions.clear();
+    cdpBaselines.clear();
+    recordedTimeOrigins.clear();
+  }
+
+  private synchronized void record(NavigationMetrics metrics) {
+    navigationsByUrl.computeIfAbsent(withoutFragment(metrics.getUrl()), k -> new ArrayList<>()).add(metrics);
+
+    Path outputPath = option.getOutputPath();
+    if (outputPath == null) {
+      return;
+    }
+    try {
+      byte[] line = (MAPPER.writeValueAsString(metrics) + "\n").getBytes(StandardCharsets.UTF_8);
+      synchronized (OUTPUT_LOCK) {
+        if (outputPath.getParent() != null) {
+          Files.createDirectories(outputPath.getParent());
+        }
+        Files.write(outputPath, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      }
+    } catch (IOException e) {
+      log.warn("Absorbing exception while streaming navigation metrics to file {}: {}", outputPath, e.getMessage());
+      return;
+    }
+    if (!streamingLogged) {
+      streamingLogged = true;
+      log.info("PagePerformance: streaming navigation metrics to file: {}", outputPath);
+    }
+  }
+
+  /**
+   * CDP counters (*Count, *Duration, ThreadTime, ProcessTime) keep growing for the life of the page, so they are
+   * reported as the delta since the previous capture (or since observe) on the same page. Gauges are reported as-is.
+   */
+  private Map<String, Double> getCdpMetricsSinceLastCapture(Page page) {
+    return toCdpDeltas(getCdpMetrics(page), cdpBaselines.getOrDefault(page, Map.of()));
+  }
+
+  private void resetCdpBaseline(Page page) {
+    Map<String, Double> current = getCdpMetrics(page);
+    if (!current.isEmpty()) {
+      cdpBaselines.put(page, current);
+    }
+  }
+
+  /**
+   * Subtract the baseline from the CDP counters. Chromium resets every counter when a cross-process navigation (e.g.
+   * cross-site) swaps the renderer, so if any counter dropped below its baseline the baseline belongs to the previous
+   * process and all counters are reported raw, rather than mixing deltas and raw totals within one navigation.
+   *
+   * @param current  metrics at this capture
+   * @param baseline metrics at the previous capture, empty if there is none
+   * @return metrics with counters relative to the baseline
+   */
+  static Map<String, Double> toCdpDeltas(Map<String, Double> current, Map<String, Double> baseline) {
+    boolean rendererSwapped = current.entrySet().stream()
+        .anyMatch(metric -> isCdpCounter(metric.getKey()) && baseline.containsKey(metric.getKey())
+            && metric.getValue() < baseline.get(metric.getKey()));
+
+    Map<String, Double> metrics = new LinkedHashMap<>();
+    current.forEach((name, value) -> {
+      Double previous = baseline.get(name);
+      boolean isDelta = !rendererSwapped && isCdpCounter(name) && previous != null;
+      metrics.put(name, isDelta ? value - previous : value);
+    });
+    return metrics;
+  }
+
+  static boolean isCdpCounter(String name) {
+    return name.endsWith("Count") || name.endsWith("Duration") || "ThreadTime".equals(name)
+        || "ProcessTime".equals(name);
+  }
+
+  private Map<String, Double> getCdpMetrics(Page page) {
+    Map<String, Double> metrics = new LinkedHashMap<>();
+    CDPSession session = cdpSessions.get(page);
+    if (session == null) {
+      return metrics;
+    }
+
+    try {
+      JsonObject response = session.send("Performance.getMetrics");
+      for (JsonElement metric : response.getAsJsonArray("metrics")) {
+        JsonObject entry = metric.getAsJsonObject();
+        metrics.put(entry.get("name").getAsString(), entry.get("value").getAsDouble());
+      }
+    } catch (PlaywrightException e) {
+      log.warn("Absorbing exception while collecting CDP metrics: {}", e.getMessage());
+    }
+    return metrics;
+  }
+
+  private static boolean isChromium(Page page) {
+    // browser() is null for persistent contexts, in which case CDP metrics are skipped.
+    Browser browser = page.context().browser();
+    return browser != null && "chromium".equals(browser.browserType().name());
+  }
+
+  private static String withoutFragment(String url) {
+    return url.split("#", 2)[0];
+  }
+
+  private static Double toDouble(Object value) {
+    return value instanceof Number number && Double.isFinite(number.doubleValue()) ? number.doubleValue() : null;
+  }
+
+  private static double toPrimitiveDouble(Object value) {
+    Double number = toDouble(value);
+    return number == null ? 0 : number;
+  }
+}
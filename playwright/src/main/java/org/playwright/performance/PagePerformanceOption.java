@@ -0,0 +1,48 @@
+package org.playwright.performance;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.nio.file.Path;
+
+/**
+ * Options controlling what {@link PagePerformance} collects for every navigation and where it is streamed to.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class PagePerformanceOption {
+  /**
+   * JSON-lines file that every captured navigation is appended to. Set to null to disable streaming. The file is never
+   * truncated, so it keeps growing across runs until it is deleted (e.g. by mvn clean for the default location).
+   * Instances sharing the same file within a JVM append whole lines only.
+   */
+  @Builder.Default
+  Path outputPath = Path.of("target/performance/page-performance.jsonl");
+
+  /**
+   * Include the Resource Timing entry of every sub-resource. Disable on resource heavy pages to keep the payload small.
+   */
+  @Builder.Default
+  boolean collectResourceTimings = true;
+
+  /**
+   * Maximum number of Resource Timing entries the browser buffers per document (browser default is 250). Entries past
+   * this limit are dropped by the browser, truncating resourceTimings and the resourceCount/resourceTransferSize totals.
+   */
+  @Builder.Default
+  int resourceTimingBufferSize = 1000;
+
+  /**
+   * Collect Chromium CDP Performance.getMetrics. Ignored for firefox and webkit.
+   */
+  @Builder.Default
+  boolean collectCdpMetrics = true;
+
+  /**
+   * Wait for all page load states (see WaitUtils#waitForAllLoadStates) before capturing.
+   */
+  @Builder.Default
+  boolean waitForLoadStates = true;
+}
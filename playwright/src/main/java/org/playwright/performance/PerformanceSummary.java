@@ -0,0 +1,89 @@
+package org.playwright.performance;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Percentile summary of every scalar metric captured for one URL.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class PerformanceSummary {
+  String url;
+  int sampleCount;
+  Map<String, Percentiles> metrics;
+
+  /**
+   * Aggregate navigations captured for the same URL. Metrics missing from a navigation (e.g. LCP on firefox) are left
+   * out of that metric's sample rather than counted as zero.
+   *
+   * @param url         url the navigations belong to
+   * @param navigations captured navigations
+   * @return summary
+   */
+  public static PerformanceSummary of(String url, @NonNull List<NavigationMetrics> navigations) {
+    Map<String, List<Double>> samples = new LinkedHashMap<>();
+    navigations.forEach(navigation -> navigation.getScalarMetrics()
+        .forEach((name, value) -> samples.computeIfAbsent(name, k -> new ArrayList<>()).add(value)));
+
+    Map<String, Percentiles> metrics = new LinkedHashMap<>();
+    samples.forEach((name, values) -> metrics.put(name, Percentiles.of(values)));
+
+    return PerformanceSummary.builder()
+        .url(url)
+        .sampleCount(navigations.size())
+        .metrics(metrics)
+        .build();
+  }
+
+  @Value
+  @Builder(toBuilder = true)
+  @Jacksonized
+  public static class Percentiles {
+    double min;
+    double p50;
+    double p75;
+    double p90;
+    double p95;
+    double p99;
+    double max;
+
+    /**
+     * Compute nearest-rank percentiles of the given values.
+     *
+     * @param values non-empty list of values
+     * @return percentiles
+     */
+    public static Percentiles of(@NonNull List<Double> values) {
+      if (values.isEmpty()) {
+        throw new IllegalArgumentException("Cannot compute percentiles of an empty sample.");
+      }
+      double[] sorted = values.stream().mapToDouble(Double::doubleValue).toArray();
+      Arrays.sort(sorted);
+
+      return Percentiles.builder()
+          .min(sorted[0])
+          .p50(nearestRank(sorted, 50))
+          .p75(nearestRank(sorted, 75))
+          .p90(nearestRank(sorted, 90))
+          .p95(nearestRank(sorted, 95))
+          .p99(nearestRank(sorted, 99))
+          .max(sorted[sorted.length - 1])
+          .build();
+    }
+
+    private static double nearestRank(double[] sorted, int percentile) {
+      int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+      return sorted[Math.max(rank, 1) - 1];
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package org.playwright.performance;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Subset of a Resource Timing (PerformanceResourceTiming) entry. All times are in milliseconds relative to the
+ * navigation start.
+ */
+@Value
+@Builder(toBuilder = true)
+@Jacksonized
+public class ResourceTiming {
+  String name;
+  String initiatorType;
+  double startTime;
+  double duration;
+  double transferSize;
+  double encodedBodySize;
+}
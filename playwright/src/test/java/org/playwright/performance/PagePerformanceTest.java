@@ -0,0 +1,210 @@
+package org.playwright.performance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.Route;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.playwright.common.PlaywrightResource;
+import org.playwright.core.PlaywrightManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+class PagePerformanceTest {
+  private static final String BASE_URL = "http://performance.test";
+
+  private static final String CROSS_SITE_URL = "http://cross-site.test";
+
+  private static final String BUSY_SCRIPT_HTML = """
+      <html><body><p>busy</p>
+      <script>const end = performance.now() + 500; while (performance.now() < end) {}</script>
+      </body></html>
+      """;
+
+  private static final String IDLE_HTML = "<html><body><p>idle</p></body></html>";
+
+  /**
+   * Page with an image (resource timing entry) and a banner that grows after load, pushing the content down (layout
+   * shift). The upscaled 1x1 image is too low-entropy to be an LCP candidate, so LCP comes from the text paint.
+   */
+  private static final String IMAGE_HTML = """
+      <html><body>
+      <div id="banner"></div>
+      <img src="/image.png" width="300" height="300">
+      <p>text content below the image, painted as the largest contentful element</p>
+      <script>setTimeout(() => document.getElementById('banner').style.height = '150px', 100);</script>
+      </body></html>
+      """;
+
+  private static final byte[] IMAGE_PNG = Base64.getDecoder()
+      .decode("iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNk+M9QDwADhgGAWjR9awAAAABJRU5ErkJggg==");
+
+  private Playwright playwright;
+  private Browser browser;
+  private BrowserContext browserContext;
+  private Page page;
+
+  @BeforeEach
+  void setUp() {
+    playwright = PlaywrightManager.create(PlaywrightResource.PLAYWRIGHT);
+    browser = PlaywrightManager.create(PlaywrightResource.BROWSER);
+    browserContext = PlaywrightManager.create(PlaywrightResource.BROWSER_CONTEXT);
+    page = browserContext.newPage();
+    page.route(BASE_URL + "/busy", route -> route.fulfill(new Route.FulfillOptions()
+        .setContentType("text/html").setBody(BUSY_SCRIPT_HTML)));
+    page.route(BASE_URL + "/idle", route -> route.fulfill(new Route.FulfillOptions()
+        .setContentType("text/html").setBody(IDLE_HTML)));
+    page.route(CROSS_SITE_URL + "/busy", route -> route.fulfill(new Route.FulfillOptions()
+        .setContentType("text/html").setBody(BUSY_SCRIPT_HTML)));
+    page.route(BASE_URL + "/image", route -> route.fulfill(new Route.FulfillOptions()
+        .setContentType("text/html").setBody(IMAGE_HTML)));
+    page.route(BASE_URL + "/image.png", route -> route.fulfill(new Route.FulfillOptions()
+        .setContentType("image/png").setBodyBytes(IMAGE_PNG)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    PlaywrightManager.close(browserContext);
+    PlaywrightManager.close(browser);
+    PlaywrightManager.close(playwright);
+  }
+
+  @Test
+  void testCaptureCollectsTimingsLcpClsAndCdpMetrics_ThenStreamsJsonLine(@TempDir Path tempDir) throws IOException {
+    Path outputPath = tempDir.resolve("performance.jsonl");
+
+    try (PagePerformance performance =
+             new PagePerformance(PagePerformanceOption.builder().outputPath(outputPath).build())) {
+      performance.observe(page);
+      page.navigate(BASE_URL + "/image");
+      NavigationMetrics metrics = performance.capture(page);
+
+      Assertions.assertEquals(BASE_URL + "/image", metrics.getUrl());
+      Assertions.assertNotNull(metrics.getLargestContentfulPaint(), "LCP should be reported from the text paint.");
+      Assertions.assertNotNull(metrics.getCumulativeLayoutShift(), "CLS should be reported for the image page.");
+      Assertions.assertTrue(metrics.getCumulativeLayoutShift() > 0,
+          "The growing banner should be observed as a layout shift.");
+      Assertions.assertTrue(metrics.getNavigationTimings().get("load") > 0);
+      Assertions.assertTrue(metrics.getResourceTimings().stream().anyMatch(r -> r.getName().endsWith("/image.png")),
+          "The image should be reported as a resource timing entry.");
+      Assertions.assertTrue(metrics.getScalarMetrics().get("cdp.JSHeapUsedSize") > 0,
+          "CDP metrics should be collected on Chromium.");
+
+      // exactly one JSON line is streamed per capture and it can be read back
+      List<String> lines = Files.readAllLines(outputPath);
+      Assertions.assertEquals(1, lines.size());
+      NavigationMetrics streamed = new ObjectMapper().readValue(lines.get(0), NavigationMetrics.class);
+      Assertions.assertEquals(metrics, streamed);
+
+      PerformanceSummary summary = performance.summarize().get(BASE_URL + "/image");
+      Assertions.assertEquals(1, summary.getSampleCount());
+    }
+  }
+
+  @Test
+  void testSameDocumentIsRecordedOnlyOnce(@TempDir Path tempDir) throws IOException {
+    Path outputPath = tempDir.resolve("performance.jsonl");
+
+    try (PagePerformance performance =
+             new PagePerformance(PagePerformanceOption.builder().outputPath(outputPath).build())) {
+      performance.observe(page);
+      page.navigate(BASE_URL + "/idle");
+      performance.capture(page);
+
+      // capturing again, or after a client-side route change, still reads the same document's navigation entry
+      performance.capture(page);
+      page.evaluate("() => history.pushState({}, '', '/idle/route')");
+      performance.capture(page);
+
+      Assertions.assertEquals(1, Files.readAllLines(outputPath).size());
+      Assertions.assertEquals(1, performance.summarize().get(BASE_URL + "/idle").getSampleCount());
+      Assertions.assertFalse(performance.summarize().containsKey(BASE_URL + "/idle/route"));
+
+      // a new document load is recorded again
+      page.navigate(BASE_URL + "/idle");
+      performance.capture(page);
+      Assertions.assertEquals(2, performance.summarize().get(BASE_URL + "/idle").getSampleCount());
+    }
+  }
+
+  @Test
+  void testOutputFailureDoesNotFailCapture(@TempDir Path tempDir) throws IOException {
+    // parent of the output path is a regular file, so the output directory cannot be created
+    Path notADirectory = Files.createFile(tempDir.resolve("not-a-directory"));
+
+    try (PagePerformance performance = new PagePerformance(PagePerformanceOption.builder()
+        .outputPath(notADirectory.resolve("performance.jsonl")).build())) {
+      performance.observe(page);
+      page.navigate(BASE_URL + "/idle");
+
+      Assertions.assertDoesNotThrow(() -> performance.capture(page));
+      Assertions.assertEquals(1, performance.summarize().get(BASE_URL + "/idle").getSampleCount());
+    }
+  }
+
+  @Test
+  void testCdpCountersAreReportedPerNavigation() {
+    try (PagePerformance performance = new PagePerformance(PagePerformanceOption.builder().outputPath(null).build())) {
+      performance.observe(page);
+
+      page.navigate(BASE_URL + "/busy");
+      NavigationMetrics busy = performance.capture(page);
+      page.navigate(BASE_URL + "/idle");
+      NavigationMetrics idle = performance.capture(page);
+
+      // ScriptDuration is reported by CDP in seconds
+      Assertions.assertTrue(busy.getCdpMetrics().get("ScriptDuration") >= 0.4,
+          "The busy navigation should report the script time of its own busy loop.");
+      Assertions.assertTrue(idle.getCdpMetrics().get("ScriptDuration") < 0.4,
+          "The second navigation should not include the script time of the first navigation.");
+      Assertions.assertTrue(idle.getCdpMetrics().get("JSHeapUsedSize") > 0,
+          "Gauges should be reported as-is rather than as a delta.");
+    }
+  }
+
+  @Test
+  void testCdpCountersAreReportedRawAfterCrossSiteNavigation() {
+    try (PagePerformance performance = new PagePerformance(PagePerformanceOption.builder().outputPath(null).build())) {
+      performance.observe(page);
+
+      page.navigate(BASE_URL + "/busy");
+      performance.capture(page);
+      // cross-site navigation swaps the renderer process, which restarts every CDP counter
+      page.navigate(CROSS_SITE_URL + "/busy");
+      NavigationMetrics crossSite = performance.capture(page);
+
+      Assertions.assertTrue(crossSite.getCdpMetrics().get("ScriptDuration") >= 0.4,
+          "The cross-site navigation should not have the previous renderer's script time subtracted.");
+      crossSite.getCdpMetrics().forEach((name, value) -> Assertions.assertTrue(value >= 0,
+          "CDP metric " + name + " should never be negative."));
+    }
+  }
+
+  @Test
+  void testCdpDeltasAreAllRawWhenAnyCounterDropped() {
+    Map<String, Double> baseline = Map.of("ScriptDuration", 0.5, "ThreadTime", 2.0, "JSHeapUsedSize", 100.0);
+
+    Map<String, Double> sameProcess = PagePerformance.toCdpDeltas(
+        Map.of("ScriptDuration", 0.7, "ThreadTime", 2.5, "JSHeapUsedSize", 80.0), baseline);
+    Assertions.assertEquals(0.7 - 0.5, sameProcess.get("ScriptDuration"), 1e-9);
+    Assertions.assertEquals(0.5, sameProcess.get("ThreadTime"), 1e-9);
+    Assertions.assertEquals(80.0, sameProcess.get("JSHeapUsedSize"));
+
+    // ThreadTime dropped, so the renderer was swapped: ScriptDuration is raw even though it climbed above its baseline
+    Map<String, Double> swapped = PagePerformance.toCdpDeltas(
+        Map.of("ScriptDuration", 0.6, "ThreadTime", 0.8, "JSHeapUsedSize", 80.0), baseline);
+    Assertions.assertEquals(0.6, swapped.get("ScriptDuration"));
+    Assertions.assertEquals(0.8, swapped.get("ThreadTime"));
+  }
+}
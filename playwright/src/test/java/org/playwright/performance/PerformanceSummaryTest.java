@@ -0,0 +1,75 @@
+package org.playwright.performance;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+class PerformanceSummaryTest {
+  @Test
+  void testPercentilesUseNearestRank() {
+    List<Double> values = new ArrayList<>(IntStream.rangeClosed(1, 100).mapToObj(i -> (double) i).toList());
+    Collections.shuffle(values);
+
+    PerformanceSummary.Percentiles percentiles = PerformanceSummary.Percentiles.of(values);
+
+    Assertions.assertEquals(1, percentiles.getMin());
+    Assertions.assertEquals(50, percentiles.getP50());
+    Assertions.assertEquals(75, percentiles.getP75());
+    Assertions.assertEquals(90, percentiles.getP90());
+    Assertions.assertEquals(95, percentiles.getP95());
+    Assertions.assertEquals(99, percentiles.getP99());
+    Assertions.assertEquals(100, percentiles.getMax());
+  }
+
+  @Test
+  void testPercentilesOfEmptySample_ThrowsException() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> PerformanceSummary.Percentiles.of(List.of()));
+  }
+
+  @Test
+  void testSummaryAggregatesScalarMetricsPerNavigation() {
+    NavigationMetrics first = NavigationMetrics.builder()
+        .url("https://example.com")
+        .navigationTiming("load", 100.0)
+        .cdpMetric("JSHeapUsedSize", 2048.0)
+        .largestContentfulPaint(80.0)
+        .resourceTiming(ResourceTiming.builder().name("app.js").transferSize(10).build())
+        .build();
+    NavigationMetrics second = NavigationMetrics.builder()
+        .url("https://example.com")
+        .navigationTiming("load", 300.0)
+        .cdpMetric("JSHeapUsedSize", 4096.0)
+        .build();
+
+    PerformanceSummary summary = PerformanceSummary.of("https://example.com", List.of(first, second));
+
+    Assertions.assertEquals(2, summary.getSampleCount());
+    Assertions.assertEquals(100, summary.getMetrics().get("load").getP50());
+    Assertions.assertEquals(300, summary.getMetrics().get("load").getMax());
+    Assertions.assertEquals(4096, summary.getMetrics().get("cdp.JSHeapUsedSize").getMax());
+    // metrics missing from a navigation are left out of the sample instead of counted as zero
+    Assertions.assertEquals(80, summary.getMetrics().get("largestContentfulPaint").getMin());
+    Assertions.assertEquals(1, summary.getMetrics().get("resourceCount").getMax());
+    Assertions.assertFalse(summary.getMetrics().containsKey("cumulativeLayoutShift"));
+  }
+
+  @Test
+  void testSummarySkipsNullMetricValues() {
+    NavigationMetrics navigation = NavigationMetrics.builder()
+        .url("https://example.com")
+        .navigationTiming("load", null)
+        .navigationTiming("timeToFirstByte", 20.0)
+        .cdpMetric("JSHeapUsedSize", null)
+        .build();
+
+    PerformanceSummary summary = PerformanceSummary.of("https://example.com", List.of(navigation));
+
+    Assertions.assertEquals(20, summary.getMetrics().get("timeToFirstByte").getP50());
+    Assertions.assertFalse(summary.getMetrics().containsKey("load"));
+    Assertions.assertFalse(summary.getMetrics().containsKey("cdp.JSHeapUsedSize"));
+  }
+}